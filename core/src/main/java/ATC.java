@@ -0,0 +1,431 @@
+/*  ATC is a simulator of Mexico City's Local Air Traffic Controller.
+    Copyright (C) 2018 Diego Betanzos Esquer
+    
+    This file is part of ATC.
+
+    ATC is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    ATC is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+
+public class ATC implements Runnable {
+	// Required attributes.
+	// The fleet is only modified by the tick thread. Other threads read the size first and then the array,
+	// skipping empty slots in case a plane was removed in between. They shouldn't keep the array for longer
+	// than a tick: removals swap it with the spare one, which is then reused for the next removal.
+	private volatile Plane[] fleet;
+	private volatile int fleetSize;
+	private Plane[] spare;
+	private int spareSize;
+	private ConcurrentLinkedQueue<Plane> arrivals;
+	private ConcurrentLinkedQueue<Plane> departures;
+	private int nextId;
+	private volatile FleetIndex index;
+	private long ticks;
+	private FleetPublisher publisher;
+	private Thread ticker;
+	private boolean danger;
+	private Analytics analytics;
+	// Memory, in bytes, still available for tracks. Planes that join when it's used up don't get one.
+	// Only the tick thread uses it, in updateFleet().
+	private long trackBudget;
+	
+	// Agent mode: each plane runs in its own thread and all of them advance together, synchronized by
+	// the phaser. Planes are parties of its children, groups of up to AGENTS_PER_PHASER planes. The ticker
+	// is also a party of the last group, which new planes join, so it can't advance while they register.
+	private boolean agents;
+	private Phaser phaser;
+	private Phaser group;
+	private int groupAgents;
+	private ExecutorService executor;
+	
+	// Time between ticks, in milliseconds.
+	private static final int TICK = 35;
+	// Memory for all the tracks, in kilobytes. It can be changed with -Datc.trackBudget=<kilobytes>.
+	private static final int TRACK_BUDGET = Integer.getInteger("atc.trackBudget", 1024);
+	// File where the fleet is published every tick for other processes, set with -Datc.shm=<file>
+	// (e.g. /dev/shm/atc-fleet), and the most planes it can have, set with -Datc.shmCapacity=<planes>.
+	private static final String SHARED_FILE = System.getProperty("atc.shm");
+	private static final int SHARED_CAPACITY = Integer.getInteger("atc.shmCapacity", 4096);
+	// A phaser can't have more than 65535 parties, so agents are split in children phasers.
+	// Groups are only opened when the last one is full, so the root has one party per 1000 planes at most.
+	private static final int AGENTS_PER_PHASER = 1000;
+	
+	// ATC constructor
+	public ATC() {
+		this(false);
+	}
+	
+	// ATC constructor, in agent mode if "agents" is true.
+	public ATC(boolean agents) {
+		this.agents = agents;
+		if (agents) {
+			phaser = new Phaser();
+			group = new Phaser(phaser, 1);
+			groupAgents = 0;
+			executor = newAgentExecutor();
+		}
+		fleet = new Plane[16];
+		fleetSize = 0;
+		spare = new Plane[16];
+		spareSize = 0;
+		index = new FleetIndex(fleet, 0);
+		arrivals = new ConcurrentLinkedQueue<>();
+		departures = new ConcurrentLinkedQueue<>();
+		nextId = 0;
+		danger = false;
+		analytics = new Analytics();
+		trackBudget = TRACK_BUDGET * 1024L;
+		ticks = 0;
+		
+		// Open the shared file if requested.
+		if (SHARED_FILE != null) {
+			try {
+				publisher = new FleetPublisher(new File(SHARED_FILE), SHARED_CAPACITY);
+			} catch (IOException | IllegalArgumentException e) {
+				System.out.println("Couldn't open shared file: " + e.getMessage());
+			}
+		}
+	}
+	
+	// Add plane to the simulation. Any thread may call it, even while the simulation is running;
+	// the plane joins the fleet at the beginning of the next tick.
+	public void addPlane (Plane plane) {
+		plane.setATC(this);
+		arrivals.offer(plane);
+	}
+	
+	// Remove plane from the simulation at the beginning of the next tick.
+	// Planes that reach the gate are removed this way too.
+	public void removePlane (Plane plane) {
+		departures.offer(plane);
+	}
+	
+	// Get a read-only copy of all the planes in the fleet.
+	public List<Plane> getPlanes() {
+		int size = fleetSize;
+		Plane[] planes = fleet;
+		ArrayList<Plane> copy = new ArrayList<>(size);
+		for (int i = 0; i < size && i < planes.length; i++) {
+			if (planes[i] != null) {
+				copy.add(planes[i]);
+			}
+		}
+		return Collections.unmodifiableList(copy);
+	}
+	
+	// Get the planes in flight as they were at the end of the last tick, indexed for spatial queries.
+	public FleetIndex getIndex() {
+		return index;
+	}
+	
+	// Start the tick thread.
+	public void start() {
+		if (ticker == null) {
+			ticker = new Thread(this, "ATC");
+			ticker.setDaemon(true);
+			ticker.start();
+		}
+	}
+	
+	// Tick every 35 milliseconds until interrupted.
+	public void run() {
+		while (!Thread.interrupted()) {
+			tick();
+			try {
+				Thread.sleep(TICK);
+			} catch (InterruptedException e) {
+				break;
+			}
+		}
+	}
+	
+	// Stop the tick thread and, in agent mode, the threads of the planes.
+	public void stop() {
+		if (ticker != null) {
+			ticker.interrupt();
+		}
+		if (agents) {
+			phaser.forceTermination();
+			executor.shutdown();
+		}
+	}
+	
+	// Advance the simulation one step: add and remove the planes queued since the last tick,
+	// move every plane, give them instructions and check safety once for the whole fleet.
+	public void tick() {
+		updateFleet();
+		
+		if (agents) {
+			// Start the tick, wait for all the agents to move and then to contact ATC.
+			group.arriveAndAwaitAdvance();
+			group.arriveAndAwaitAdvance();
+			group.arriveAndAwaitAdvance();
+		} else {
+			int size = fleetSize;
+			Plane[] planes = fleet;
+			for (int i = 0; i < size; i++) {
+				Plane p = planes[i];
+				if (!p.isAtGate()) {
+					p.step();
+					// Contact ATC for instructions, or just to report the position if it's landing.
+					control(p);
+					if (p.isAtGate()) {
+						removePlane(p);
+					}
+				}
+			}
+		}
+		
+		index = new FleetIndex(fleet, fleetSize);
+		checkSafety();
+		ticks++;
+		
+		// Share the state of the tick with other processes.
+		if (publisher != null) {
+			publisher.publish(ticks, index.getPlanes());
+		}
+	}
+	
+	// Take the queued planes into the fleet, giving each of them an id and a slot, and take out the ones
+	// queued for removal.
+	private void updateFleet() {
+		int first = fleetSize;
+		Plane p;
+		while ((p = arrivals.poll()) != null) {
+			Plane[] planes = fleet;
+			int size = fleetSize;
+			// Grow into a new array, so readers always see a complete one.
+			if (size == planes.length) {
+				planes = Arrays.copyOf(planes, size * 2);
+			}
+			p.setId(nextId++);
+			analytics.entered(p.getEntry());
+			assignTrack(p);
+			planes[size] = p;
+			fleet = planes;
+			fleetSize = size + 1;
+		}
+		
+		if (agents) {
+			startAgents(first, fleetSize);
+		}
+		
+		// Mark the planes to remove, then copy the rest in one pass so readers never see a hole.
+		boolean removed = false;
+		while ((p = departures.poll()) != null) {
+			if (!p.isRemoved()) {
+				p.setRemoved();
+				releaseTrack(p);
+				removed = true;
+			}
+		}
+		if (removed) {
+			Plane[] planes = fleet;
+			int size = fleetSize;
+			// Copy into the spare array, unless the fleet grew since it was used.
+			Plane[] remaining = spare;
+			if (remaining.length != planes.length) {
+				remaining = new Plane[planes.length];
+				spareSize = 0;
+			}
+			int count = 0;
+			for (int i = 0; i < size; i++) {
+				if (!planes[i].isRemoved()) {
+					remaining[count++] = planes[i];
+				}
+			}
+			// Clear what's left of its last use, so removed planes can be collected.
+			if (spareSize > count) {
+				Arrays.fill(remaining, count, spareSize, null);
+			}
+			fleet = remaining;
+			fleetSize = count;
+			spare = planes;
+			spareSize = size;
+		}
+	}
+	
+	// Give a track to a plane if there's memory left for it.
+	private void assignTrack(Plane p) {
+		if (trackBudget >= Track.BYTES) {
+			trackBudget -= Track.BYTES;
+			p.setTrack(new Track());
+		}
+	}
+	
+	// Give back the memory of the track of a plane that no longer needs it.
+	private void releaseTrack(Plane p) {
+		if (p.getTrack() != null) {
+			p.setTrack(null);
+			trackBudget += Track.BYTES;
+		}
+	}
+	
+	// Start the threads of the planes in the given fleet slots. This happens between ticks, before the
+	// ticker arrives at the phaser, so the new agents join in the next tick. They register in the last
+	// group, where the ticker hasn't arrived yet, so registering never has to wait for an advance.
+	// When it's full the ticker moves to a new group, joining it before leaving the old one so the
+	// root can't advance in between.
+	private void startAgents(int from, int to) {
+		Plane[] planes = fleet;
+		for (int i = from; i < to; i++) {
+			if (groupAgents == AGENTS_PER_PHASER) {
+				Phaser full = group;
+				group = new Phaser(phaser, 1);
+				groupAgents = 0;
+				full.arriveAndDeregister();
+			}
+			group.register();
+			groupAgents++;
+			planes[i].setPhaser(group);
+			executor.execute(planes[i]);
+		}
+	}
+	
+	// Agents run on virtual threads when available (Java 21 or newer), otherwise on platform threads.
+	private static ExecutorService newAgentExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			System.out.println("Virtual threads need Java 21 or newer. Agent mode will use platform threads, "
+					+ "which won't scale past a few thousand planes.");
+			return Executors.newCachedThreadPool();
+		}
+	}
+	
+	// See if there's any possible conflict caused by planes close to each other.
+	// Only planes close enough to be in risk, taken from the index of the last tick, are compared.
+	public void checkSafety() {
+		double temp;
+		FleetIndex planes = index;
+		
+		// Compare plane's distance.
+		for (Plane p1 : planes.getPlanes()) {
+			if (p1.getSpeed() < 16) {
+				continue;
+			}
+			for (Plane p2 : planes.withinRadius(p1.getX(), p1.getY(), p1.getSpeed() * 4.9)) {
+				// Compare only if none of them is landing and if vertical separation is too small.
+				if (p2 != p1 && p1.getSpeed() >= 16 && p2.getSpeed() >= 16 && Math.abs((p1.getAltitude() - p2.getAltitude())) < 2500) {
+					// Calculate distance from each other.
+					temp = Math.sqrt(Math.pow((p1.getX() - p2.getX()), 2) + Math.pow((p1.getY() - p2.getY()), 2));
+					
+					// In case they are in risk, set danger boolean variable to true in both planes and ATC.
+					if (temp <= p1.getSpeed() * 4.9) {
+						p1.setDangerTrue();
+						p2.setDangerTrue();
+						danger = true;
+					}
+				}
+			}
+		}
+	}
+	
+	// Tell planes what to do based on their location.
+	// Depending on the location, altitude, speed and heading may or may not be modified.
+	// The waypoint the plane is in (index in Analytics.WAYPOINTS) is recorded for the run statistics.
+	// Landing planes get no instructions, but their position is recorded too.
+	public void control(Plane p) {
+		int waypoint = -1;
+		if (p.isLanding()) {
+			analytics.sample(p, waypoint);
+			return;
+		}
+		
+		// Planes arriving by South entrance.
+		if (p.getX() >= 770 && p.getX() <= 810 && p.getY() >= 980 && p.getY() <= 1020) {
+			waypoint = 0;
+			p.setAltitudeChange(20000, 970);
+			p.setSpeedGoal(30, 970);
+		}
+		  // Planes arriving by Northwest entrance.
+		  else if (p.getX() >= 145 && p.getX() <= 175 && p.getY() >= -10 && p.getY() <= 15) {
+			waypoint = 1;
+			p.setAltitudeChange(18000, 210);
+			p.setSpeedGoal(28, 210);
+		} 
+		  // Planes arriving by Northeast entrance.
+		  else if (p.getX() >= 915 && p.getX() <= 945 && p.getY() >= 35 && p.getY() <= 65) {
+			waypoint = 2;
+			p.setAltitudeChange(20000, 498);
+			p.setSpeedGoal(30, 498);
+			p.setGoalHeading(145, 'R');
+		} else if (p.getX() >= 635 && p.getX() <= 665 && p.getY() >= 260 && p.getY() <= 290) {
+			waypoint = 3;
+			p.setGoalHeading(250, 'R');
+		} 
+		  // Common landing path for all planes.
+	      else if (p.getX() >= 425 && p.getX() <= 455 && p.getY() >= 55 && p.getY() <= 85) {
+			waypoint = 4;
+			p.setAltitudeChange(18000, 195);
+			p.setSpeedGoal(28, 195);
+			p.setGoalHeading(65, 'L');
+		} else if (p.getX() >= 275 && p.getX() <= 305 && p.getY() >= 150 && p.getY() <= 180) {
+			waypoint = 5;
+			p.setAltitudeChange(13000, 235);
+			p.setSpeedGoal(25, 235);
+		} else if (p.getX() >= 375 && p.getX() <= 405 && p.getY() >= 360 && p.getY() <= 390) {
+			waypoint = 6;
+			p.setAltitudeChange(11625, 210);
+			p.setSpeedGoal(22, 210);
+			p.setGoalHeading(130, 'R');
+		} else if (p.getX() >= 270 && p.getX() <= 290 && p.getY() >= 540 && p.getY() <= 560) {
+			waypoint = 7;
+			p.setAltitudeChange(10250, 225);
+			p.setSpeedGoal(19, 225);
+			p.setGoalHeading(90, 'L');
+		} else if (p.getX() >= 265 && p.getX() <= 295 && p.getY() >= 770 && p.getY() <= 790) {
+			waypoint = 8;
+			p.setAltitudeChange(7300, 333);
+			p.setSpeedGoal(16, 333);
+			p.setGoalHeading(330, 'L');
+		} 
+		  // Land the planes.
+		  else if (p.getX() >= 595 && p.getX() <= 605 && p.getY() >= 680 && p.getY() <= 695) {
+			waypoint = 9;
+			p.land();
+			analytics.landed(p.getEntry());
+		}
+		
+		analytics.sample(p, waypoint);
+	}
+	
+	public Analytics getAnalytics() {
+		return analytics;
+	}
+	
+	// Write the run statistics as CSV files in the working directory.
+	public void exportAnalytics() {
+		try {
+			analytics.writeCsv(new File("analytics.csv"), new File("occupancy.csv"));
+		} catch (IOException e) {
+			System.out.println("Couldn't write analytics: " + e.getMessage());
+		}
+	}
+	
+	// Are there planes in danger?
+	public boolean isDanger() {
+		return danger;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,180 @@
+/*  ATC is a simulator of Mexico City's Local Air Traffic Controller.
+    Copyright (C) 2018 Diego Betanzos Esquer
+    
+    This file is part of ATC.
+
+    ATC is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    ATC is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Aggregated traffic statistics of a simulation run.
+// Every plane in flight is sampled once per tick, including its landing roll, until it reaches the gate.
+// Every counter lives in a fixed-size array allocated once, so memory doesn't grow with the length of the run.
+public class Analytics {
+	// Waypoints of ATC.control(), in the same order they are checked there.
+	public static final String[] WAYPOINTS = {"South entrance", "Northwest entrance", "Northeast entrance", "Northeast turn",
+			"Common path 1", "Common path 2", "Common path 3", "Common path 4", "Common path 5", "Runway"};
+	// Entry points, named as in the Menu.
+	public static final String[] ENTRIES = {"South", "Northeast", "Northwest"};
+	public static final int SOUTH = 0;
+	public static final int NORTHEAST = 1;
+	public static final int NORTHWEST = 2;
+
+	// Occupancy grid covers the radar screen with square cells of 20 pixels (400 meters).
+	public static final int CELL = 20;
+	public static final int COLS = 60;
+	public static final int ROWS = 50;
+	// Altitude bands of 7500 feet, the last one takes everything above it.
+	public static final int BAND_HEIGHT = 7500;
+	public static final int BANDS = 4;
+
+	// Counters. Planes may report from different threads, so atomic arrays are used.
+	private AtomicLongArray occupancy;
+	private AtomicLongArray bandTicks;
+	private AtomicLongArray dwell;
+	private AtomicLongArray arrivals;
+	private AtomicLongArray landings;
+
+	// Analytics constructor.
+	public Analytics() {
+		occupancy = new AtomicLongArray(BANDS * COLS * ROWS);
+		bandTicks = new AtomicLongArray(BANDS);
+		dwell = new AtomicLongArray(WAYPOINTS.length);
+		arrivals = new AtomicLongArray(ENTRIES.length);
+		landings = new AtomicLongArray(ENTRIES.length);
+	}
+
+	// Record one tick of a plane. Waypoint is the index in WAYPOINTS the plane is in, or -1 if none.
+	public void sample(Plane p, int waypoint) {
+		int band = band(p.getAltitude());
+		bandTicks.incrementAndGet(band);
+
+		// Planes outside of the screen only count for the altitude bands.
+		int col = (int) Math.floor(p.getX() / CELL);
+		int row = (int) Math.floor(p.getY() / CELL);
+		if (col >= 0 && col < COLS && row >= 0 && row < ROWS) {
+			occupancy.incrementAndGet((band * ROWS + row) * COLS + col);
+		}
+
+		if (waypoint >= 0) {
+			dwell.incrementAndGet(waypoint);
+		}
+	}
+
+	// A plane coming through an entry point joined the simulation.
+	public void entered(int entry) {
+		if (entry >= 0) {
+			arrivals.incrementAndGet(entry);
+		}
+	}
+
+	// A plane that came through an entry point has landed.
+	public void landed(int entry) {
+		if (entry >= 0) {
+			landings.incrementAndGet(entry);
+		}
+	}
+
+	// Get the altitude band of an altitude in feet.
+	public static int band(double altitude) {
+		int band = (int) (altitude / BAND_HEIGHT);
+		return Math.max(0, Math.min(BANDS - 1, band));
+	}
+
+	// Ticks spent in a cell, adding all altitude bands.
+	public long getOccupancy(int col, int row) {
+		long total = 0;
+		for (int band = 0; band < BANDS; band++) {
+			total += occupancy.get((band * ROWS + row) * COLS + col);
+		}
+		return total;
+	}
+
+	// Write the summary (waypoint dwell, altitude bands and entry throughput) and the occupancy grid as CSV files.
+	public void writeCsv(File summary, File grid) throws IOException {
+		try (PrintWriter out = new PrintWriter(summary)) {
+			out.println("metric,name,value");
+			for (int i = 0; i < WAYPOINTS.length; i++) {
+				out.println("waypoint_dwell_ticks," + WAYPOINTS[i] + "," + dwell.get(i));
+			}
+			for (int i = 0; i < BANDS; i++) {
+				out.println("altitude_band_ticks," + bandName(i) + "," + bandTicks.get(i));
+			}
+			for (int i = 0; i < ENTRIES.length; i++) {
+				out.println("entry_arrivals," + ENTRIES[i] + "," + arrivals.get(i));
+				out.println("entry_landings," + ENTRIES[i] + "," + landings.get(i));
+			}
+		}
+
+		// Only cells that were visited are written.
+		try (PrintWriter out = new PrintWriter(grid)) {
+			out.println("band,col,row,ticks");
+			for (int band = 0; band < BANDS; band++) {
+				for (int row = 0; row < ROWS; row++) {
+					for (int col = 0; col < COLS; col++) {
+						long ticks = occupancy.get((band * ROWS + row) * COLS + col);
+						if (ticks > 0) {
+							out.println(bandName(band) + "," + col + "," + row + "," + ticks);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	// Read the occupancy grid written by writeCsv. Only the occupancy is filled in the returned statistics.
+	public static Analytics readOccupancy(File grid) throws IOException {
+		Analytics analytics = new Analytics();
+		try (BufferedReader in = new BufferedReader(new FileReader(grid))) {
+			String line = in.readLine();
+			if (line == null || !line.equals("band,col,row,ticks")) {
+				throw new IOException("Not an occupancy grid: " + grid);
+			}
+			while ((line = in.readLine()) != null) {
+				String[] fields = line.split(",");
+				int band = -1;
+				for (int i = 0; i < BANDS; i++) {
+					if (bandName(i).equals(fields[0])) {
+						band = i;
+					}
+				}
+				try {
+					int col = Integer.parseInt(fields[1]);
+					int row = Integer.parseInt(fields[2]);
+					if (fields.length != 4 || band < 0 || col < 0 || col >= COLS || row < 0 || row >= ROWS) {
+						throw new IOException("Invalid occupancy line: " + line);
+					}
+					analytics.occupancy.addAndGet((band * ROWS + row) * COLS + col, Long.parseLong(fields[3]));
+				} catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+					throw new IOException("Invalid occupancy line: " + line);
+				}
+			}
+		}
+		return analytics;
+	}
+
+	// Name of an altitude band, e.g. "7500-14999".
+	private static String bandName(int band) {
+		if (band == BANDS - 1) {
+			return (band * BAND_HEIGHT) + "+";
+		}
+		return (band * BAND_HEIGHT) + "-" + ((band + 1) * BAND_HEIGHT - 1);
+	}
+}
@@ -0,0 +1,250 @@
+/*  ATC is a simulator of Mexico City's Local Air Traffic Controller.
+    Copyright (C) 2018 Diego Betanzos Esquer
+    
+    This file is part of ATC.
+
+    ATC is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    ATC is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+// Snapshot of the planes in flight at the end of a tick, indexed by position for spatial queries.
+// It's a KD-tree over x and y packed in arrays: the plane in the middle of each range splits it in two,
+// alternating between x (even depth) and y (odd depth). Altitude is kept for box queries.
+// Coordinates are in screen pixels, 1 pixel is 20 meters (10 km = 500 pixels).
+// The snapshot never changes once built; the planes themselves keep moving in later ticks.
+public class FleetIndex {
+	private Plane[] planes;
+	private double[] xs;
+	private double[] ys;
+	private double[] altitudes;
+	private int size;
+	private List<Plane> list;
+	
+	// Build the index with the first "count" planes of the array, leaving out the ones at the gate.
+	public FleetIndex(Plane[] fleet, int count) {
+		planes = new Plane[count];
+		size = 0;
+		for (int i = 0; i < count; i++) {
+			if (fleet[i] != null && !fleet[i].isAtGate()) {
+				planes[size++] = fleet[i];
+			}
+		}
+		planes = Arrays.copyOf(planes, size);
+		xs = new double[size];
+		ys = new double[size];
+		altitudes = new double[size];
+		for (int i = 0; i < size; i++) {
+			xs[i] = planes[i].getX();
+			ys[i] = planes[i].getY();
+			altitudes[i] = planes[i].getAltitude();
+		}
+		build(0, size, 0);
+		list = Collections.unmodifiableList(Arrays.asList(planes));
+	}
+	
+	// Number of planes in the snapshot.
+	public int size() {
+		return size;
+	}
+	
+	// All the planes in the snapshot, in no particular order.
+	public List<Plane> getPlanes() {
+		return list;
+	}
+	
+	// The k planes closest to a point, closest first. k can't be negative.
+	public List<Plane> nearest(double x, double y, int k) {
+		checkK(k);
+		int[] best = new int[Math.min(k, size)];
+		double[] bestDist = new double[best.length];
+		int found = nearest(0, size, 0, x, y, best, bestDist, 0);
+		List<Plane> result = new ArrayList<>(found);
+		for (int i = 0; i < found; i++) {
+			result.add(planes[best[i]]);
+		}
+		return result;
+	}
+	
+	// The k planes closest to a plane, not counting itself. k can't be negative.
+	public List<Plane> nearest(Plane p, int k) {
+		checkK(k);
+		// There can't be more than "size" results, so k + 1 doesn't overflow.
+		List<Plane> result = nearest(p.getX(), p.getY(), Math.min(k, size) + 1);
+		if (!result.remove(p) && result.size() > k) {
+			result.remove(k);
+		}
+		return result;
+	}
+	
+	private static void checkK(int k) {
+		if (k < 0) {
+			throw new IllegalArgumentException("The number of planes can't be negative: " + k);
+		}
+	}
+	
+	// Planes at a distance of r or less from a point.
+	public List<Plane> withinRadius(double x, double y, double r) {
+		List<Plane> result = new ArrayList<>();
+		withinRadius(0, size, 0, x, y, r, result);
+		return result;
+	}
+	
+	// Planes inside a box, including its borders.
+	public List<Plane> withinBox(double minX, double minY, double maxX, double maxY) {
+		return withinBox(minX, minY, maxX, maxY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY);
+	}
+	
+	// Planes inside a box and between two altitudes (in feet), including the borders.
+	public List<Plane> withinBox(double minX, double minY, double maxX, double maxY, double minAlt, double maxAlt) {
+		List<Plane> result = new ArrayList<>();
+		withinBox(0, size, 0, minX, minY, maxX, maxY, minAlt, maxAlt, result);
+		return result;
+	}
+	
+	// Arrange the range so its middle element splits it by the coordinate of this depth, then do the same
+	// with both halves.
+	private void build(int lo, int hi, int depth) {
+		if (hi - lo <= 1) {
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		select(lo, hi - 1, mid, depth % 2 == 0 ? xs : ys);
+		build(lo, mid, depth + 1);
+		build(mid + 1, hi, depth + 1);
+	}
+	
+	// Quickselect: leave in position k the element that would be there if the range was sorted by key.
+	private void select(int lo, int hi, int k, double[] key) {
+		while (lo < hi) {
+			double pivot = key[(lo + hi) >>> 1];
+			int i = lo;
+			int j = hi;
+			while (i <= j) {
+				while (key[i] < pivot) {
+					i++;
+				}
+				while (key[j] > pivot) {
+					j--;
+				}
+				if (i <= j) {
+					swap(i++, j--);
+				}
+			}
+			if (k <= j) {
+				hi = j;
+			} else if (k >= i) {
+				lo = i;
+			} else {
+				return;
+			}
+		}
+	}
+	
+	private void swap(int i, int j) {
+		Plane p = planes[i];
+		planes[i] = planes[j];
+		planes[j] = p;
+		double t = xs[i];
+		xs[i] = xs[j];
+		xs[j] = t;
+		t = ys[i];
+		ys[i] = ys[j];
+		ys[j] = t;
+		t = altitudes[i];
+		altitudes[i] = altitudes[j];
+		altitudes[j] = t;
+	}
+	
+	// Keep in "best" the closest planes found so far, sorted by squared distance. Returns how many there are.
+	private int nearest(int lo, int hi, int depth, double x, double y, int[] best, double[] bestDist, int found) {
+		if (lo >= hi || best.length == 0) {
+			return found;
+		}
+		int mid = (lo + hi) >>> 1;
+		double dx = xs[mid] - x;
+		double dy = ys[mid] - y;
+		double dist = dx * dx + dy * dy;
+		
+		// Insert in order, dropping the farthest one if there's no room.
+		if (found < best.length || dist < bestDist[found - 1]) {
+			int i = found < best.length ? found++ : found - 1;
+			while (i > 0 && bestDist[i - 1] > dist) {
+				best[i] = best[i - 1];
+				bestDist[i] = bestDist[i - 1];
+				i--;
+			}
+			best[i] = mid;
+			bestDist[i] = dist;
+		}
+		
+		// Search first the side the point is in; the other one only if it can have something closer.
+		double split = depth % 2 == 0 ? dx : dy;
+		if (split > 0) {
+			found = nearest(lo, mid, depth + 1, x, y, best, bestDist, found);
+			if (found < best.length || split * split < bestDist[found - 1]) {
+				found = nearest(mid + 1, hi, depth + 1, x, y, best, bestDist, found);
+			}
+		} else {
+			found = nearest(mid + 1, hi, depth + 1, x, y, best, bestDist, found);
+			if (found < best.length || split * split < bestDist[found - 1]) {
+				found = nearest(lo, mid, depth + 1, x, y, best, bestDist, found);
+			}
+		}
+		return found;
+	}
+	
+	private void withinRadius(int lo, int hi, int depth, double x, double y, double r, List<Plane> result) {
+		if (lo >= hi) {
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		double dx = xs[mid] - x;
+		double dy = ys[mid] - y;
+		if (dx * dx + dy * dy <= r * r) {
+			result.add(planes[mid]);
+		}
+		
+		double split = depth % 2 == 0 ? dx : dy;
+		if (split >= -r) {
+			withinRadius(lo, mid, depth + 1, x, y, r, result);
+		}
+		if (split <= r) {
+			withinRadius(mid + 1, hi, depth + 1, x, y, r, result);
+		}
+	}
+	
+	private void withinBox(int lo, int hi, int depth, double minX, double minY, double maxX, double maxY,
+			double minAlt, double maxAlt, List<Plane> result) {
+		if (lo >= hi) {
+			return;
+		}
+		int mid = (lo + hi) >>> 1;
+		if (xs[mid] >= minX && xs[mid] <= maxX && ys[mid] >= minY && ys[mid] <= maxY
+				&& altitudes[mid] >= minAlt && altitudes[mid] <= maxAlt) {
+			result.add(planes[mid]);
+		}
+		
+		double split = depth % 2 == 0 ? xs[mid] : ys[mid];
+		if (split >= (depth % 2 == 0 ? minX : minY)) {
+			withinBox(lo, mid, depth + 1, minX, minY, maxX, maxY, minAlt, maxAlt, result);
+		}
+		if (split <= (depth % 2 == 0 ? maxX : maxY)) {
+			withinBox(mid + 1, hi, depth + 1, minX, minY, maxX, maxY, minAlt, maxAlt, result);
+		}
+	}
+}
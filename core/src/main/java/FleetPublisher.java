@@ -0,0 +1,100 @@
+/*  ATC is a simulator of Mexico City's Local Air Traffic Controller.
+    Copyright (C) 2018 Diego Betanzos Esquer
+    
+    This file is part of ATC.
+
+    ATC is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    ATC is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+// Publishes the fleet every tick in a memory-mapped file, so other processes can read it (see FleetLayout).
+// Frames are written by turns in the two halves of the file, each one guarded by its sequence number.
+public class FleetPublisher {
+	private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	
+	private MappedByteBuffer buffer;
+	private int capacity;
+	private int frame;
+	
+	// Create the file, or reuse it if it exists, with room for "capacity" planes per frame (from 1 to
+	// FleetLayout.MAX_CAPACITY). An existing file is never shrunk: readers of a previous run may still have it mapped.
+	public FleetPublisher(File file, int capacity) throws IOException {
+		if (capacity < 1 || capacity > FleetLayout.MAX_CAPACITY) {
+			throw new IllegalArgumentException("Capacity must be from 1 to " + FleetLayout.MAX_CAPACITY + " planes, not " + capacity + ".");
+		}
+		this.capacity = capacity;
+		frame = 0;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE)) {
+			// Mapping past the end grows the file, mapping less leaves the rest as it is.
+			// The mapping stays valid after closing the channel.
+			buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FleetLayout.fileBytes(capacity));
+		}
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		
+		// Tell readers there's nothing to read while the header changes.
+		INTS.setRelease(buffer, FleetLayout.LATEST_OFFSET, -1);
+		INTS.setRelease(buffer, FleetLayout.MAGIC_OFFSET, 0);
+		VarHandle.fullFence();
+		
+		buffer.putInt(FleetLayout.VERSION_OFFSET, FleetLayout.VERSION);
+		buffer.putInt(FleetLayout.CAPACITY_OFFSET, capacity);
+		buffer.putInt(FleetLayout.RECORD_BYTES_OFFSET, FleetLayout.RECORD_BYTES);
+		// The magic number goes last, so a reader that sees it sees the rest of the header.
+		INTS.setRelease(buffer, FleetLayout.MAGIC_OFFSET, FleetLayout.MAGIC);
+	}
+	
+	// Write the planes as the frame of a tick, and make it the latest one.
+	public void publish(long tick, List<Plane> planes) {
+		int base = FleetLayout.frameOffset(frame, capacity);
+		int count = Math.min(planes.size(), capacity);
+		
+		// Odd sequence: readers of this frame will retry until it's even again. A reused file may have been
+		// left odd by a previous run that stopped in the middle of a frame.
+		long sequence = (long) LONGS.get(buffer, base + FleetLayout.SEQUENCE_OFFSET) | 1;
+		LONGS.setOpaque(buffer, base + FleetLayout.SEQUENCE_OFFSET, sequence);
+		VarHandle.storeStoreFence();
+		
+		buffer.putLong(base + FleetLayout.TICK_OFFSET, tick);
+		buffer.putInt(base + FleetLayout.COUNT_OFFSET, count);
+		buffer.putInt(base + FleetLayout.FRAME_FLAGS_OFFSET, planes.size() > capacity ? FleetLayout.FRAME_TRUNCATED : 0);
+		for (int i = 0; i < count; i++) {
+			Plane p = planes.get(i);
+			int record = base + FleetLayout.FRAME_HEADER_BYTES + i * FleetLayout.RECORD_BYTES;
+			buffer.putInt(record + FleetLayout.ID_OFFSET, p.getId());
+			buffer.putInt(record + FleetLayout.CALLSIGN_OFFSET, p.getCallsign().hashCode());
+			buffer.putDouble(record + FleetLayout.X_OFFSET, p.getX());
+			buffer.putDouble(record + FleetLayout.Y_OFFSET, p.getY());
+			buffer.putDouble(record + FleetLayout.ALTITUDE_OFFSET, p.getAltitude());
+			buffer.putDouble(record + FleetLayout.SPEED_OFFSET, p.getSpeed());
+			buffer.putInt(record + FleetLayout.HEADING_OFFSET, p.getHeading());
+			buffer.putInt(record + FleetLayout.PLANE_FLAGS_OFFSET,
+					(p.isDanger() ? FleetLayout.PLANE_DANGER : 0) | (p.isLanding() ? FleetLayout.PLANE_LANDING : 0));
+		}
+		
+		LONGS.setRelease(buffer, base + FleetLayout.SEQUENCE_OFFSET, sequence + 1);
+		INTS.setRelease(buffer, FleetLayout.LATEST_OFFSET, frame);
+		frame ^= 1;
+	}
+}
@@ -0,0 +1,64 @@
+/*  ATC is a simulator of Mexico City's Local Air Traffic Controller.
+    Copyright (C) 2018 Diego Betanzos Esquer
+    
+    This file is part of ATC.
+
+    ATC is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    ATC is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+
+// Launcher that runs a simulation without any window, as fast as possible, and writes its statistics.
+// Usage: Headless [ticks] [danger] [agents] [inject=<planes per tick>]
+public class Headless {
+	public static void main(String args[]) {
+		int ticks = 3000;
+		boolean danger = false;
+		boolean agents = false;
+		int inject = 0;
+		for (String arg : args) {
+			switch (arg) {
+				case "danger":
+					danger = true;
+					break;
+				case "agents":
+					agents = true;
+					break;
+				default:
+					if (arg.startsWith("inject=")) {
+						inject = Integer.parseInt(arg.substring("inject=".length()));
+					} else {
+						ticks = Integer.parseInt(arg);
+					}
+					break;
+			}
+		}
+		
+		ATC atc = new ATC(agents);
+		Scenario.load(atc, danger);
+		
+		// Tick without waiting between steps, adding the planes of the feed one by one before each tick.
+		int injected = 0;
+		for (int i = 0; i < ticks; i++) {
+			for (int j = 0; j < inject; j++) {
+				atc.addPlane(Scenario.arrival(injected++));
+			}
+			atc.tick();
+		}
+		
+		atc.stop();
+		atc.exportAnalytics();
+		System.out.println("Simulated " + ticks + " ticks, " + (injected > 0 ? "injected " + injected + " planes, " : "")
+				+ atc.getPlanes().size() + " planes haven't reached the gate."
+				+ (atc.isDanger() ? " Planes were in danger." : ""));
+	}
+}
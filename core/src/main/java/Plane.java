@@ -17,9 +17,7 @@
     along with this program.  If not, see <https://www.gnu.org/licenses/>.
 */
 
-import java.awt.Color;
-import java.awt.Font;
-import java.awt.Graphics;
+import java.util.concurrent.Phaser;
 
 public class Plane implements Runnable {
 	// Required attributes of planes.
@@ -42,9 +40,20 @@ public class Plane implements Runnable {
 	private boolean landing;
 	private boolean danger;
 	private boolean gate;
+	private int entry;
+	private int id;
+	private Phaser phaser;
+	private Track track;
+	// Set by the tick thread between ticks; agents see it after the phaser advances.
+	private boolean removed;
 	
-	// Plane constructor.
+	// Plane constructor, for a plane that doesn't come through any entry point.
 	public Plane(String cs, String mdl, double xCoord, double yCoord, double zCoord, int hdng, double spd, ATC at) {
+		this(cs, mdl, xCoord, yCoord, zCoord, hdng, spd, at, -1);
+	}
+	
+	// Plane constructor. Entry is the entry point it comes through (see Analytics.ENTRIES).
+	public Plane(String cs, String mdl, double xCoord, double yCoord, double zCoord, int hdng, double spd, ATC at, int ntry) {
 		callsign = cs;
 		setModel(mdl);
 		x = xCoord;
@@ -65,12 +74,24 @@ public class Plane implements Runnable {
 		landing = false;
 		danger = false;
 		gate = false;
+		entry = ntry;
+		id = -1;
+		removed = false;
 	}
 	
 	public String getCallsign() {
 		return callsign;
 	}
 	
+	// Id given by ATC when the plane joins the fleet, -1 before that.
+	public int getId() {
+		return id;
+	}
+	
+	public void setId(int id) {
+		this.id = id;
+	}
+	
 	// Modify X, Y and altitude values.
 	private void move() {
 		x += speedX;
@@ -175,54 +196,54 @@ public class Plane implements Runnable {
 		return false;
 	}
 	
-	// Each plane is a Thread.
-	public void run() {
-		while (!Thread.interrupted()) {
-			// Change heading, altitude and speed every time.
-			// The methods do nothing if there aren't changes to be made.
-			headingChange();
-			altitudeChange();
-			speedChange();
-			// Move the plane.
-			move();
-			
-			// See if its landing.
-			if (landing) {
-				// When plane lands, finish execution of the thread.
-				if (hasLanded()) {
-					gate = true;
-					break;
-				}
-			} else {
-				// Contact ATC for instructions.
-				atc.control(this);
-				atc.checkSafety();
-			}
-			
-			try {
-	            Thread.sleep(35);
-	        } catch (InterruptedException e) {
-	            
-	        }
+	// Advance the plane one tick.
+	public void step() {
+		// Change heading, altitude and speed every time.
+		// The methods do nothing if there aren't changes to be made.
+		headingChange();
+		altitudeChange();
+		speedChange();
+		// Move the plane.
+		move();
+		if (track != null) {
+			track.add(x, y);
+		}
+		
+		// When a landing plane stops, it goes to the gate.
+		if (landing && hasLanded()) {
+			gate = true;
 		}
 	}
 	
-	// Display the plane in screen.
-	public void render(Graphics g) {
-		if (!gate) {
-			// Set square color. Red for danger, blue normal.
-			if (danger) {
-				g.setColor(Color.RED);
-				g.drawString("DANGER", (int) x - 15, (int) - + 15);
-			} else {
-				// Green value varies depending on the plane's altitude.
-				g.setColor(new Color(0, 255 - (((int) altitude * 2 / 255) % 256), 255));
+	// In agent mode each plane is a thread. Every tick all planes move, then all of them contact ATC,
+	// and then ATC checks safety; the phaser keeps them in step.
+	// Only ATC in agent mode should run planes: it registers them in its phaser first (see setPhaser).
+	public void run() {
+		if (phaser == null) {
+			throw new IllegalStateException("Plane " + callsign + " isn't registered in an agent mode ATC.");
+		}
+		
+		try {
+			// Wait for the tick to start. It returns a negative number when the simulation ends.
+			// When ATC takes the plane out of the fleet (removed, or at the gate), finish execution of the thread.
+			while (phaser.arriveAndAwaitAdvance() >= 0 && !removed) {
+				step();
+				if (gate) {
+					atc.removePlane(this);
+				}
+				phaser.arriveAndAwaitAdvance();
+				
+				// Contact ATC for instructions, or just to report the position if it's landing.
+				atc.control(this);
+				phaser.arriveAndAwaitAdvance();
 			}
-			
-			g.fillRect((int) x, (int) y, 10, 10);
-			g.setColor(Color.WHITE);
-			g.setFont(new Font("TimesRoman", Font.BOLD, 13));
-			g.drawString(callsign, (int) x + 15, (int) y + 15);
+		} catch (RuntimeException e) {
+			// Take the plane out of the simulation instead of stopping it.
+			System.out.println("Plane " + callsign + " failed and was removed: " + e);
+			atc.removePlane(this);
+		} finally {
+			// Leave the phaser however the thread ends, so the others don't wait for this plane.
+			phaser.arriveAndDeregister();
 		}
 	}
 	
@@ -251,6 +272,32 @@ public class Plane implements Runnable {
 		return speed * 3.6;
 	}
 	
+	// Heading in degrees, from 0 to 359.
+	public int getHeading() {
+		return ((heading % 360) + 360) % 360;
+	}
+	
+	public boolean isLanding() {
+		return landing;
+	}
+	
+	public boolean isAtGate() {
+		return gate;
+	}
+	
+	// Has ATC taken the plane out of the fleet?
+	public boolean isRemoved() {
+		return removed;
+	}
+	
+	public void setRemoved() {
+		removed = true;
+	}
+	
+	public boolean isDanger() {
+		return danger;
+	}
+	
 	public void setDangerTrue() {
 		danger = true;
 	}
@@ -258,6 +305,20 @@ public class Plane implements Runnable {
 	public void setATC(ATC at) {
 		this.atc = at;
 	}
+	
+	// Phaser the plane is registered in as a party, set by ATC in agent mode before running it.
+	public void setPhaser(Phaser phaser) {
+		this.phaser = phaser;
+	}
+	
+	// Recent path of the plane, null if it doesn't keep one.
+	public Track getTrack() {
+		return track;
+	}
+	
+	public void setTrack(Track track) {
+		this.track = track;
+	}
 
 	public String getModel() {
 		return model;
@@ -266,4 +327,9 @@ public class Plane implements Runnable {
 	public void setModel(String model) {
 		this.model = model;
 	}
+	
+	// Entry point the plane comes through (see Analytics.ENTRIES), -1 if none.
+	public int getEntry() {
+		return entry;
+	}
 }
@@ -0,0 +1,60 @@
+/*  ATC is a simulator of Mexico City's Local Air Traffic Controller.
+    Copyright (C) 2018 Diego Betanzos Esquer
+    
+    This file is part of ATC.
+
+    ATC is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    ATC is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+
+// Predefined traffic used by the automatic simulations.
+public class Scenario {
+	// Add the test planes to ATC, each one with the entry point it comes through. Depending on the boolean
+	// variable "danger" it will or won't add a new plane that will have conflict with another one.
+	public static void load(ATC atc, boolean danger) {
+		// Northeast planes (DATUL)
+		atc.addPlane(new Plane("SLI145", "E190", 950.0, 0.0, 22000.0, 110, 32.0, atc, Analytics.NORTHEAST)); // 0 kms.
+		atc.addPlane(new Plane("IJ2240", "A320", 1093.65, -394.67, 22000.0, 110, 32.0, atc, Analytics.NORTHEAST)); // 8.4 kms.
+		atc.addPlane(new Plane("AM2", "B789", 1360.42, -1127.63, 22000.0, 110, 32.0, atc, Analytics.NORTHEAST)); // 24 kms.
+		// South planes
+		atc.addPlane(new Plane("AM2463", "B738", 790.0, 1000.0, 28000.0, 250, 36.0, atc, Analytics.SOUTH)); // 0 kms.
+		atc.addPlane(new Plane("AFR178", "A388", 961.01, 1469.85, 28000.0, 250, 36.0, atc, Analytics.SOUTH)); // 10 kms.
+		atc.addPlane(new Plane("AM90", "B788", 1268.83, 2315.57, 28000.0, 250, 36.0, atc, Analytics.SOUTH)); // 28 kms.
+		atc.addPlane(new Plane("VOI705", "A320", 1371.43, 2597.48, 28000.0, 250, 36.0, atc, Analytics.SOUTH)); // 34 kms.
+		// Northwest planes (KOBEK)
+		atc.addPlane(new Plane("VOI667", "A321", 200.0, 0.0, 20000.0, 65, 30.0, atc, Analytics.NORTHWEST)); // 0 kms.
+		atc.addPlane(new Plane("ACA996", "A319", 94.35, -226.58, 20000.0, 65, 30.0, atc, Analytics.NORTHWEST)); // 5 kms
+		atc.addPlane(new Plane("VIV3307", "A320", -32.44, -498.47, 20000.0, 65, 30.0, atc, Analytics.NORTHWEST)); // 11 kms.
+		atc.addPlane(new Plane("AM189", "B737", -526.9, -1558.85, 20000.0, 65, 30.0, atc, Analytics.NORTHWEST)); // 34.4 kms.
+		
+		if (danger) {
+			// South plane
+			atc.addPlane(new Plane("Dangerous", "C300", 1080.72, 1798.74, 28000.0, 250, 36.0, atc, Analytics.SOUTH)); // 17 kms, 
+		}
+	}
+	
+	// The n-th plane of a steady feed of arrivals for long runs. Planes take turns on the three entry points,
+	// each one 2 kms behind the previous one of its entry point, as the Menu places them.
+	public static Plane arrival(int n) {
+		String cs = "FEED" + n;
+		double dist = (n / 3) * 2 * 1000.0 / 20.0;
+		switch (n % 3) {
+			case Analytics.SOUTH:
+				return new Plane(cs, "A320", 790.0 + dist * Math.sin(Math.toRadians(20)), 1000.0 + dist * Math.cos(Math.toRadians(20)), 28000.0, 250, 36.0, null, Analytics.SOUTH);
+			case Analytics.NORTHEAST:
+				return new Plane(cs, "A320", 950.0 + dist * Math.cos(Math.toRadians(70)), - dist * Math.sin(Math.toRadians(70)), 22000.0, 110, 32.0, null, Analytics.NORTHEAST);
+			default:
+				return new Plane(cs, "A320", 200.0 - dist * Math.sin(Math.toRadians(25)), - dist * Math.cos(Math.toRadians(25)), 20000.0, 65, 30.0, null, Analytics.NORTHWEST);
+		}
+	}
+}
@@ -0,0 +1,121 @@
+/*  ATC is a simulator of Mexico City's Local Air Traffic Controller.
+    Copyright (C) 2018 Diego Betanzos Esquer
+    
+    This file is part of ATC.
+
+    ATC is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    ATC is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+
+import java.lang.invoke.VarHandle;
+
+// Recent path of a plane, in fixed-size ring buffers of coordinates.
+// Level 0 keeps the position of every tick. When a level is full its oldest point is dropped, and every
+// other dropped point moves to the next level, so the older the points are, the more sparse they get.
+// Memory never grows after construction (BYTES per track).
+// The plane adds points from the tick thread (or its own, in agent mode) while the radar copies them from
+// the render thread, so copies are checked against a sequence number like the frames of FleetPublisher.
+public class Track {
+	public static final int LEVELS = 3;
+	public static final int CAPACITY = 16;
+	// Most points a track can hold.
+	public static final int POINTS = LEVELS * CAPACITY;
+	// Memory used by one track on a 64-bit JVM with compressed references: the object (12-byte header,
+	// 5 references and the sequence) and its 5 arrays (16-byte header each), each one rounded up to 8 bytes.
+	public static final int BYTES = align(12 + 5 * 4 + Integer.BYTES) + 2 * align(16 + POINTS * Float.BYTES)
+			+ 3 * align(16 + LEVELS * Integer.BYTES);
+	
+	// Level L uses the positions from L * CAPACITY to (L + 1) * CAPACITY - 1 of the arrays.
+	private float[] xs;
+	private float[] ys;
+	private int[] oldest;
+	private int[] counts;
+	private int[] dropped;
+	// Odd while a point is being added.
+	private volatile int sequence;
+	
+	// Track constructor.
+	public Track() {
+		xs = new float[POINTS];
+		ys = new float[POINTS];
+		oldest = new int[LEVELS];
+		counts = new int[LEVELS];
+		dropped = new int[LEVELS];
+	}
+	
+	private static int align(int bytes) {
+		return (bytes + 7) & ~7;
+	}
+	
+	// Add the newest position. Only one thread may add points.
+	public void add(double x, double y) {
+		sequence++;
+		VarHandle.storeStoreFence();
+		add(0, (float) x, (float) y);
+		sequence++;
+	}
+	
+	private void add(int level, float x, float y) {
+		int base = level * CAPACITY;
+		if (counts[level] < CAPACITY) {
+			int i = base + (oldest[level] + counts[level]) % CAPACITY;
+			xs[i] = x;
+			ys[i] = y;
+			counts[level]++;
+			return;
+		}
+		
+		// Full: overwrite the oldest point, and keep it in the next level if it's its turn.
+		int i = base + oldest[level];
+		float oldX = xs[i];
+		float oldY = ys[i];
+		xs[i] = x;
+		ys[i] = y;
+		oldest[level] = (oldest[level] + 1) % CAPACITY;
+		if (level + 1 < LEVELS && dropped[level]++ % 2 == 0) {
+			add(level + 1, oldX, oldY);
+		}
+	}
+	
+	// Copy the points, from oldest to newest, into the arrays (which must have room for POINTS).
+	// Returns how many were copied. Retries if a point was added in the middle, which could mix old and
+	// new points and draw a stray segment.
+	public int copy(int[] x, int[] y) {
+		while (true) {
+			int before = sequence;
+			if ((before & 1) == 0) {
+				int n = copyPoints(x, y);
+				VarHandle.loadLoadFence();
+				if (sequence == before) {
+					return n;
+				}
+			}
+			Thread.onSpinWait();
+		}
+	}
+	
+	private int copyPoints(int[] x, int[] y) {
+		int n = 0;
+		for (int level = LEVELS - 1; level >= 0; level--) {
+			int base = level * CAPACITY;
+			int count = Math.min(counts[level], CAPACITY);
+			for (int i = 0; i < count; i++) {
+				int j = base + (oldest[level] + i) % CAPACITY;
+				x[n] = (int) xs[j];
+				y[n] = (int) ys[j];
+				n++;
+			}
+		}
+		return n;
+	}
+}
@@ -0,0 +1,132 @@
+/*  ATC is a simulator of Mexico City's Local Air Traffic Controller.
+    Copyright (C) 2018 Diego Betanzos Esquer
+    
+    This file is part of ATC.
+
+    ATC is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    ATC is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+// Copy of one frame of the fleet, filled by FleetReader. It can be reused for every read.
+public class FleetFrame {
+	private long tick;
+	private int count;
+	private boolean truncated;
+	private int[] ids;
+	private int[] callsigns;
+	private double[] xs;
+	private double[] ys;
+	private double[] altitudes;
+	private double[] speeds;
+	private int[] headings;
+	private int[] flags;
+	
+	// FleetFrame constructor, with room for "capacity" planes.
+	public FleetFrame(int capacity) {
+		ids = new int[capacity];
+		callsigns = new int[capacity];
+		xs = new double[capacity];
+		ys = new double[capacity];
+		altitudes = new double[capacity];
+		speeds = new double[capacity];
+		headings = new int[capacity];
+		flags = new int[capacity];
+	}
+	
+	// Copy a frame from the buffer, starting at "base", growing if it doesn't fit (up to "capacity" planes).
+	// The caller checks it wasn't being written.
+	void copy(ByteBuffer buffer, int base, int capacity) {
+		tick = buffer.getLong(base + FleetLayout.TICK_OFFSET);
+		count = Math.max(0, Math.min(capacity, buffer.getInt(base + FleetLayout.COUNT_OFFSET)));
+		if (count > ids.length) {
+			grow(count);
+		}
+		truncated = (buffer.getInt(base + FleetLayout.FRAME_FLAGS_OFFSET) & FleetLayout.FRAME_TRUNCATED) != 0;
+		for (int i = 0; i < count; i++) {
+			int record = base + FleetLayout.FRAME_HEADER_BYTES + i * FleetLayout.RECORD_BYTES;
+			ids[i] = buffer.getInt(record + FleetLayout.ID_OFFSET);
+			callsigns[i] = buffer.getInt(record + FleetLayout.CALLSIGN_OFFSET);
+			xs[i] = buffer.getDouble(record + FleetLayout.X_OFFSET);
+			ys[i] = buffer.getDouble(record + FleetLayout.Y_OFFSET);
+			altitudes[i] = buffer.getDouble(record + FleetLayout.ALTITUDE_OFFSET);
+			speeds[i] = buffer.getDouble(record + FleetLayout.SPEED_OFFSET);
+			headings[i] = buffer.getInt(record + FleetLayout.HEADING_OFFSET);
+			flags[i] = buffer.getInt(record + FleetLayout.PLANE_FLAGS_OFFSET);
+		}
+	}
+	
+	private void grow(int capacity) {
+		ids = Arrays.copyOf(ids, capacity);
+		callsigns = Arrays.copyOf(callsigns, capacity);
+		xs = Arrays.copyOf(xs, capacity);
+		ys = Arrays.copyOf(ys, capacity);
+		altitudes = Arrays.copyOf(altitudes, capacity);
+		speeds = Arrays.copyOf(speeds, capacity);
+		headings = Arrays.copyOf(headings, capacity);
+		flags = Arrays.copyOf(flags, capacity);
+	}
+	
+	// Tick of the simulation the frame belongs to.
+	public long getTick() {
+		return tick;
+	}
+	
+	// Number of planes in the frame.
+	public int getCount() {
+		return count;
+	}
+	
+	// Did the fleet have more planes than fit in a frame?
+	public boolean isTruncated() {
+		return truncated;
+	}
+	
+	public int getId(int i) {
+		return ids[i];
+	}
+	
+	public int getCallsignHash(int i) {
+		return callsigns[i];
+	}
+	
+	public double getX(int i) {
+		return xs[i];
+	}
+	
+	public double getY(int i) {
+		return ys[i];
+	}
+	
+	public double getAltitude(int i) {
+		return altitudes[i];
+	}
+	
+	public double getSpeed(int i) {
+		return speeds[i];
+	}
+	
+	public int getHeading(int i) {
+		return headings[i];
+	}
+	
+	public boolean isDanger(int i) {
+		return (flags[i] & FleetLayout.PLANE_DANGER) != 0;
+	}
+	
+	public boolean isLanding(int i) {
+		return (flags[i] & FleetLayout.PLANE_LANDING) != 0;
+	}
+}
@@ -0,0 +1,101 @@
+/*  ATC is a simulator of Mexico City's Local Air Traffic Controller.
+    Copyright (C) 2018 Diego Betanzos Esquer
+    
+    This file is part of ATC.
+
+    ATC is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    ATC is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+
+// Layout of the shared-memory file where the simulator publishes the fleet every tick.
+// All values are little-endian. Offsets are in bytes.
+//
+// Header, at the start of the file:
+//    0  int   MAGIC ("ATCF")
+//    4  int   VERSION
+//    8  int   capacity: records per frame
+//   12  int   RECORD_BYTES
+//   16  int   latest: frame (0 or 1) written last, -1 before the first tick
+//
+// Two frames follow, frame f at HEADER_BYTES + f * frameBytes(capacity). The writer fills them by turns,
+// so a reader can use the latest one while the other is being written. Each one starts with:
+//    0  long  sequence: odd while the frame is being written, even when it's complete
+//    8  long  tick
+//   16  int   count: records in the frame
+//   20  int   frame flags (FRAME_TRUNCATED)
+//
+// And then "count" records of RECORD_BYTES, starting at FRAME_HEADER_BYTES:
+//    0  int    plane id
+//    4  int    callsign hash (Java's String.hashCode() of the callsign)
+//    8  double x, in screen pixels (1 pixel is 20 meters)
+//   16  double y, in screen pixels
+//   24  double altitude, in feet
+//   32  double speed, in km/h
+//   40  int    heading, in degrees
+//   44  int    plane flags (PLANE_DANGER, PLANE_LANDING)
+//
+// To read a consistent frame: read "latest", read the sequence of that frame (acquire) and retry if it's
+// odd, copy the records, then read the sequence again; if it changed, the copy may be mixed, retry.
+//
+// When the simulator starts it reuses an existing file without shrinking it: it sets "latest" to -1 and the
+// magic number to 0, rewrites the header and writes the magic number last. Readers should treat a missing
+// magic number as "nothing published yet", even when they open the file, and reopen it if it grows.
+public class FleetLayout {
+	public static final int MAGIC = 0x41544346;
+	public static final int VERSION = 1;
+	
+	public static final int HEADER_BYTES = 64;
+	public static final int MAGIC_OFFSET = 0;
+	public static final int VERSION_OFFSET = 4;
+	public static final int CAPACITY_OFFSET = 8;
+	public static final int RECORD_BYTES_OFFSET = 12;
+	public static final int LATEST_OFFSET = 16;
+	
+	public static final int FRAME_HEADER_BYTES = 32;
+	public static final int SEQUENCE_OFFSET = 0;
+	public static final int TICK_OFFSET = 8;
+	public static final int COUNT_OFFSET = 16;
+	public static final int FRAME_FLAGS_OFFSET = 20;
+	
+	public static final int RECORD_BYTES = 48;
+	// Most planes a frame can have, so the whole file fits in one mapping (up to 2 GB).
+	public static final int MAX_CAPACITY = ((Integer.MAX_VALUE - HEADER_BYTES) / 2 - FRAME_HEADER_BYTES) / RECORD_BYTES;
+	public static final int ID_OFFSET = 0;
+	public static final int CALLSIGN_OFFSET = 4;
+	public static final int X_OFFSET = 8;
+	public static final int Y_OFFSET = 16;
+	public static final int ALTITUDE_OFFSET = 24;
+	public static final int SPEED_OFFSET = 32;
+	public static final int HEADING_OFFSET = 40;
+	public static final int PLANE_FLAGS_OFFSET = 44;
+	
+	// The fleet had more planes than the capacity; only the first ones are in the frame.
+	public static final int FRAME_TRUNCATED = 1;
+	public static final int PLANE_DANGER = 1;
+	public static final int PLANE_LANDING = 2;
+	
+	// Size of one frame.
+	public static long frameBytes(int capacity) {
+		return FRAME_HEADER_BYTES + (long) capacity * RECORD_BYTES;
+	}
+	
+	// Offset of a frame from the start of the file. It fits in an int for capacities up to MAX_CAPACITY.
+	public static int frameOffset(int frame, int capacity) {
+		return (int) (HEADER_BYTES + frame * frameBytes(capacity));
+	}
+	
+	// Size of the whole file.
+	public static long fileBytes(int capacity) {
+		return HEADER_BYTES + 2 * frameBytes(capacity);
+	}
+}
@@ -0,0 +1,103 @@
+/*  ATC is a simulator of Mexico City's Local Air Traffic Controller.
+    Copyright (C) 2018 Diego Betanzos Esquer
+    
+    This file is part of ATC.
+
+    ATC is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    ATC is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+// Reads the fleet published by a running simulator (see FleetLayout) from its shared-memory file.
+public class FleetReader implements Closeable {
+	private static final VarHandle INTS = MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+	private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	
+	private FileChannel channel;
+	private MappedByteBuffer buffer;
+	private File file;
+	
+	// Open the file written by the simulator. It may be opened while the simulator is still writing the
+	// header (or restarting); read() returns false until it's done.
+	public FleetReader(File file) throws IOException {
+		this.file = file;
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		if (channel.size() < FleetLayout.HEADER_BYTES) {
+			channel.close();
+			throw new IOException("Not an ATC fleet file: " + file);
+		}
+		buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(channel.size(), Integer.MAX_VALUE));
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+	}
+	
+	// Most planes a frame can have, 0 while the simulator is writing the header.
+	public int getCapacity() {
+		if ((int) INTS.getAcquire(buffer, FleetLayout.MAGIC_OFFSET) != FleetLayout.MAGIC) {
+			return 0;
+		}
+		return buffer.getInt(FleetLayout.CAPACITY_OFFSET);
+	}
+	
+	// Create a frame big enough for this file. Frames grow if the simulator restarts with a bigger capacity.
+	public FleetFrame newFrame() {
+		return new FleetFrame(Math.max(0, getCapacity()));
+	}
+	
+	// Copy the latest complete frame. Returns false if nothing has been published yet, while the simulator
+	// is writing the header (or restarting), or if it restarted with a file bigger than the part this
+	// reader mapped: open a new reader then.
+	public boolean read(FleetFrame frame) {
+		while (true) {
+			int latest = (int) INTS.getAcquire(buffer, FleetLayout.LATEST_OFFSET);
+			if (latest < 0 || (int) INTS.getAcquire(buffer, FleetLayout.MAGIC_OFFSET) != FleetLayout.MAGIC) {
+				return false;
+			}
+			if (buffer.getInt(FleetLayout.VERSION_OFFSET) != FleetLayout.VERSION
+					|| buffer.getInt(FleetLayout.RECORD_BYTES_OFFSET) != FleetLayout.RECORD_BYTES) {
+				throw new IllegalStateException("Unsupported ATC fleet file version " + buffer.getInt(FleetLayout.VERSION_OFFSET) + ": " + file);
+			}
+			int capacity = buffer.getInt(FleetLayout.CAPACITY_OFFSET);
+			if (capacity < 1 || capacity > FleetLayout.MAX_CAPACITY || FleetLayout.fileBytes(capacity) > buffer.capacity()) {
+				return false;
+			}
+			
+			// Retry while the frame is being written, or if it was written while copying it. A restart sets
+			// "latest" to -1 before changing the header, so checking it again catches a copy that used the
+			// capacity of the new run with the frame of the old one.
+			int base = FleetLayout.frameOffset(latest, capacity);
+			long sequence = (long) LONGS.getAcquire(buffer, base + FleetLayout.SEQUENCE_OFFSET);
+			if ((sequence & 1) == 0) {
+				frame.copy(buffer, base, capacity);
+				VarHandle.loadLoadFence();
+				if ((int) INTS.getAcquire(buffer, FleetLayout.LATEST_OFFSET) == latest
+						&& (long) LONGS.getAcquire(buffer, base + FleetLayout.SEQUENCE_OFFSET) == sequence) {
+					return true;
+				}
+			}
+			Thread.onSpinWait();
+		}
+	}
+	
+	public void close() throws IOException {
+		channel.close();
+	}
+}
@@ -0,0 +1,36 @@
+/*  ATC is a simulator of Mexico City's Local Air Traffic Controller.
+    Copyright (C) 2018 Diego Betanzos Esquer
+    
+    This file is part of ATC.
+
+    ATC is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    ATC is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+
+import java.io.File;
+import java.io.IOException;
+
+// Renders the heatmap of a finished run, e.g. a Headless one, from the occupancy grid it wrote.
+// Usage: Heatmap [occupancy.csv] [heatmap.png]
+public class Heatmap {
+	public static void main(String args[]) {
+		File grid = new File(args.length > 0 ? args[0] : "occupancy.csv");
+		File image = new File(args.length > 1 ? args[1] : "heatmap.png");
+		try {
+			Radar.writeHeatmap(Analytics.readOccupancy(grid), image);
+			System.out.println("Wrote " + image + ".");
+		} catch (IOException e) {
+			System.out.println("Couldn't write heatmap: " + e.getMessage());
+		}
+	}
+}
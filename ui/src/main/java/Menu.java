@@ -35,6 +35,7 @@ public class Menu extends JFrame implements ActionListener {
 	private JComboBox<Object> entryPoints;
 	private double dist;
 	private ArrayList<Plane> planes;
+	private ATC atc;
 	
 	// Menu constructor
 	public Menu(){
@@ -140,19 +141,25 @@ public class Menu extends JFrame implements ActionListener {
 			ep = (String) entryPoints.getSelectedItem();
 			
 			// Based on the specified entry-point add the altitude, speed and heading, based on the distance, calculate x and y coordinates.
-			// Add planes to local ArrayList of planes
+			Plane plane = null;
 			switch(ep) {
 			case "South":
-				planes.add(new Plane(cs, pt, 790.0 + dist * Math.sin(Math.toRadians(20)), 1000.0 + dist * Math.cos(Math.toRadians(20)), 28000.0, 250, 36.0, null));
+				plane = new Plane(cs, pt, 790.0 + dist * Math.sin(Math.toRadians(20)), 1000.0 + dist * Math.cos(Math.toRadians(20)), 28000.0, 250, 36.0, null, Analytics.SOUTH);
 				break;
 			case "Northeast":
-				planes.add(new Plane(cs, pt, 950.0 + dist * Math.cos(Math.toRadians(70)), - dist * Math.sin(Math.toRadians(70)), 22000.0, 110, 32.0, null));
+				plane = new Plane(cs, pt, 950.0 + dist * Math.cos(Math.toRadians(70)), - dist * Math.sin(Math.toRadians(70)), 22000.0, 110, 32.0, null, Analytics.NORTHEAST);
 				break;
 			case "Northwest":
-				planes.add(new Plane(cs, pt, 200.0 - dist * Math.sin(Math.toRadians(25)), - dist * Math.cos(Math.toRadians(25)), 20000.0, 65, 30.0, null));
+				plane = new Plane(cs, pt, 200.0 - dist * Math.sin(Math.toRadians(25)), - dist * Math.cos(Math.toRadians(25)), 20000.0, 65, 30.0, null, Analytics.NORTHWEST);
 				break;
 			}
 			
+			// Add planes to local ArrayList of planes, and to the simulation if it's already running.
+			planes.add(plane);
+			if (atc != null) {
+				atc.addPlane(plane);
+			}
+			
 			// Reset inputs.
 			entryPoints.setSelectedIndex(0);
 			callsignTxt.setText("");
@@ -163,42 +170,18 @@ public class Menu extends JFrame implements ActionListener {
 		
 		// Start simulation.
 		if (ae.getSource().equals(simulate)) {
-			this.setVisible(false);
-			JFrame app = new JFrame("ATC");
 			// Send local ArrayList of planes as parameter in "new PanelATC()" to select the right ocnstructor.
-		    app.getContentPane().add(new PanelAtc(planes), BorderLayout.CENTER);
-		    app.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-		    app.setUndecorated(true);
-		    app.pack();
-		    app.setLocationRelativeTo(null);
-		    app.setResizable(false);  
-		    app.setVisible(true);
+			startSimulation(new PanelAtc(planes));
 		}
 		
 		// Start automatic safe simulation.
 		if (ae.getSource().equals(testSafe)) {
-			this.setVisible(false);
-			JFrame app = new JFrame("ATC");
-		    app.getContentPane().add(new PanelAtc(false), BorderLayout.CENTER);
-		    app.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-		    app.setUndecorated(true);
-		    app.pack();
-		    app.setLocationRelativeTo(null);
-		    app.setResizable(false);  
-		    app.setVisible(true);
+			startSimulation(new PanelAtc(false));
 		}
 		
 		// Start automatic dangerous simulation.
 		if (ae.getSource().equals(testDanger)) {
-			this.setVisible(false);
-			JFrame app = new JFrame("ATC");
-		    app.getContentPane().add(new PanelAtc(true), BorderLayout.CENTER);
-		    app.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-		    app.setUndecorated(true);
-		    app.pack();
-		    app.setLocationRelativeTo(null);
-		    app.setResizable(false);  
-		    app.setVisible(true);
+			startSimulation(new PanelAtc(true));
 		}
 		
 		// Exit program.
@@ -207,10 +190,46 @@ public class Menu extends JFrame implements ActionListener {
 		}
 	}
 	
+	// Show the radar in its own window, with the add-plane form below it so more planes can be added
+	// while the simulation runs. Only one simulation can run at a time.
+	private void startSimulation(PanelAtc panel) {
+		simulate.setEnabled(false);
+		testSafe.setEnabled(false);
+		testDanger.setEnabled(false);
+		this.setVisible(false);
+		atc = panel.getATC();
+		
+		// Move the form fields to a single row.
+		callsignTxt.setColumns(8);
+		planeTypeTxt.setColumns(8);
+		distanceTxt.setColumns(8);
+		Panel form = new Panel();
+		form.setLayout(new FlowLayout());
+		form.add(new JLabel("Entry Point: "));
+		form.add(entryPoints);
+		form.add(new JLabel("Distance (km): "));
+		form.add(distanceTxt);
+		form.add(new JLabel("Callsign: "));
+		form.add(callsignTxt);
+		form.add(new JLabel("Plane Type: "));
+		form.add(planeTypeTxt);
+		form.add(addPlane);
+		form.add(numberPlanes);
+		
+		JFrame app = new JFrame("ATC");
+	    app.getContentPane().add(panel, BorderLayout.CENTER);
+	    app.getContentPane().add(form, BorderLayout.SOUTH);
+	    app.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+	    app.setUndecorated(true);
+	    app.pack();
+	    app.setLocationRelativeTo(null);
+	    app.setResizable(false);  
+	    app.setVisible(true);
+	}
+	
 	public static void main(String args[]) {
-		// Create the menu when it starts.
-		@SuppressWarnings("unused")
-		Menu m = new Menu();
+		// Create the menu when it starts, in the Swing thread.
+		SwingUtilities.invokeLater(Menu::new);
 		@SuppressWarnings("resource")
 		Scanner sc = new Scanner(System.in);
 		String option;
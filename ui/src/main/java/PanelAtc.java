@@ -20,6 +20,10 @@
 import java.awt.*;
 import java.awt.event.KeyAdapter;
 import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import javax.swing.*;
 
@@ -30,6 +34,7 @@ public class PanelAtc extends JPanel implements Runnable {
 	private Graphics dbg;
 	private Image dbImage = null;
 	private ATC atc;
+	private Radar radar;
 	
 	//Constantes para la medida de la pantalla
 	private static final int PWIDTH = 1200;
@@ -38,40 +43,24 @@ public class PanelAtc extends JPanel implements Runnable {
 	// Constructor for automatic simulations, depending on the boolean variable "danger" it will or won't
 	// add a new plane that will have conflict with another one.
 	public PanelAtc(boolean danger) {
-		// Create a new ATC.
+		// Create a new ATC and add the test planes to it.
 		atc = new ATC();
-		// Add planes to ATC
-		// Northeast planes (DATUL)
-		atc.addPlane(new Plane("SLI145", "E190", 950.0, 0.0, 22000.0, 110, 32.0, atc)); // 0 kms.
-		atc.addPlane(new Plane("IJ2240", "A320", 1093.65, -394.67, 22000.0, 110, 32.0, atc)); // 8.4 kms.
-		atc.addPlane(new Plane("AM2", "B789", 1360.42, -1127.63, 22000.0, 110, 32.0, atc)); // 24 kms.
-		// South planes
-		atc.addPlane(new Plane("AM2463", "B738", 790.0, 1000.0, 28000.0, 250, 36.0, atc)); // 0 kms.
-		atc.addPlane(new Plane("AFR178", "A388", 961.01, 1469.85, 28000.0, 250, 36.0, atc)); // 10 kms.
-		atc.addPlane(new Plane("AM90", "B788", 1268.83, 2315.57, 28000.0, 250, 36.0, atc)); // 28 kms.
-		atc.addPlane(new Plane("VOI705", "A320", 1371.43, 2597.48, 28000.0, 250, 36.0, atc)); // 34 kms.
-		// Northwest planes (KOBEK)
-		atc.addPlane(new Plane("VOI667", "A321", 200.0, 0.0, 20000.0, 65, 30.0, atc)); // 0 kms.
-		atc.addPlane(new Plane("ACA996", "A319", 94.35, -226.58, 20000.0, 65, 30.0, atc)); // 5 kms
-		atc.addPlane(new Plane("VIV3307", "A320", -32.44, -498.47, 20000.0, 65, 30.0, atc)); // 11 kms.
-		atc.addPlane(new Plane("AM189", "B737", -526.9, -1558.85, 20000.0, 65, 30.0, atc)); // 34.4 kms.
-		
-		if (danger) {
-			// South plane
-			atc.addPlane(new Plane("Dangerous", "C300", 1080.72, 1798.74, 28000.0, 250, 36.0, atc)); // 17 kms, 
-		}
+		Scenario.load(atc, danger);
+		radar = new Radar(atc);
 		
 		setBackground(Color.white);
 		setPreferredSize(new Dimension(PWIDTH,PHEIGHT));
 		setFocusable(true);
 		requestFocus();
 		readyForTermination();
+		followMouse();
 	}
 	
 	// Constructor for custom simulation.
 	public PanelAtc(ArrayList<Plane> planes) {
 		// Create ATC.
 		atc = new ATC();
+		radar = new Radar(atc);
 		
 		// Add each of the planes gotten from the parameters.
 		for (Plane p: planes) {
@@ -84,6 +73,11 @@ public class PanelAtc extends JPanel implements Runnable {
 		setFocusable(true);
 		requestFocus();
 		readyForTermination();
+		followMouse();
+	}
+	
+	public ATC getATC() {
+		return atc;
 	}
 	
 	// Start simulator.
@@ -127,7 +121,7 @@ public class PanelAtc extends JPanel implements Runnable {
 		}
 		dbg.setColor(Color.white);
 		dbg.fillRect(0,0,PWIDTH,PHEIGHT);
-		atc.render(dbg);
+		radar.render(dbg);
 	}
 	
 	public void paintComponent(Graphics g){
@@ -142,12 +136,35 @@ public class PanelAtc extends JPanel implements Runnable {
 			public void keyPressed(KeyEvent e) { 
 				int keyCode = e.getKeyCode();
 				if ((keyCode == KeyEvent.VK_ESCAPE)) {
+					// Save the statistics of the run before leaving.
+					atc.exportAnalytics();
+					try {
+						Radar.writeHeatmap(atc.getAnalytics(), new File("heatmap.png"));
+					} catch (IOException ex) {
+						System.out.println("Couldn't write heatmap: " + ex.getMessage());
+					}
 					System.exit(0);
 				}				
 			} 
 		});
 	}
 	
+	// Listeners to show details of the plane under the mouse, and to take the focus back from the
+	// add-plane form when the radar is clicked (so "Esc" works).
+	private void followMouse() {
+		MouseAdapter mouse = new MouseAdapter() {
+			public void mouseMoved(MouseEvent e) {
+				radar.setMouse(e.getX(), e.getY());
+			}
+			
+			public void mousePressed(MouseEvent e) {
+				requestFocusInWindow();
+			}
+		};
+		addMouseMotionListener(mouse);
+		addMouseListener(mouse);
+	}
+	
 	// Paint everything that requires "Graphics"
 	private void paintScreen(){
 		Graphics g;
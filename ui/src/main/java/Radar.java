@@ -0,0 +1,186 @@
+/*  ATC is a simulator of Mexico City's Local Air Traffic Controller.
+    Copyright (C) 2018 Diego Betanzos Esquer
+    
+    This file is part of ATC.
+
+    ATC is free software: you can redistribute it and/or modify
+    it under the terms of the GNU General Public License as published by
+    the Free Software Foundation, either version 3 of the License, or
+    (at your option) any later version.
+
+    ATC is distributed in the hope that it will be useful,
+    but WITHOUT ANY WARRANTY; without even the implied warranty of
+    MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+    GNU General Public License for more details.
+
+    You should have received a copy of the GNU General Public License
+    along with this program.  If not, see <https://www.gnu.org/licenses/>.
+*/
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import javax.imageio.ImageIO;
+
+// Draws the state of an ATC: background map, planes and danger warning.
+public class Radar {
+	private static final Font CALLSIGN_FONT = new Font("TimesRoman", Font.BOLD, 13);
+	private static final Font WARNING_FONT = new Font("TimesRoman", Font.BOLD, 20);
+	private static final Color TRAIL_COLOR = new Color(255, 255, 255, 110);
+	// How far from the mouse, in pixels, a plane can be to show its details.
+	private static final int HOVER_DISTANCE = 15;
+	
+	// Background image, shared by all radars. It's only read the first time it's needed.
+	private static BufferedImage background;
+	private static boolean backgroundLoaded = false;
+	
+	private ATC atc;
+	private int mouseX;
+	private int mouseY;
+	// Polyline reused to draw the tracks of all planes, with room for the current position.
+	private int[] trailX;
+	private int[] trailY;
+	
+	// Radar constructor.
+	public Radar(ATC at) {
+		atc = at;
+		mouseX = -1;
+		mouseY = -1;
+		trailX = new int[Track.POINTS + 1];
+		trailY = new int[Track.POINTS + 1];
+	}
+	
+	// Remember where the mouse is, to show details of the plane under it.
+	public void setMouse(int x, int y) {
+		mouseX = x;
+		mouseY = y;
+	}
+	
+	// Get background image, loading it on first use. Returns null if it couldn't be loaded.
+	public static synchronized BufferedImage getBackground() {
+		if (!backgroundLoaded) {
+			backgroundLoaded = true;
+			try {
+				background = ImageIO.read(new File("MexicoCity.jpg"));
+			} catch (IOException e) {
+				System.out.println("Couldn't load background image.");
+			}
+		}
+		return background;
+	}
+	
+	// Display elements.
+	public void render(Graphics g) {
+		g.drawImage(getBackground(), 0, 0, null);
+		FleetIndex planes = atc.getIndex();
+		for (Plane p : planes.getPlanes()) {
+			render(g, p);
+		}
+		
+		// Planes are drawn from their top left corner, so look for the closest one to the center.
+		if (mouseX >= 0) {
+			List<Plane> hovered = planes.nearest(mouseX - 5, mouseY - 5, 1);
+			if (!hovered.isEmpty()) {
+				Plane p = hovered.get(0);
+				if (Math.hypot(p.getX() + 5 - mouseX, p.getY() + 5 - mouseY) <= HOVER_DISTANCE) {
+					renderDetails(g, p);
+				}
+			}
+		}
+		
+		// If planes are in danger display warning message.
+		if (atc.isDanger()) {
+			g.setFont(WARNING_FONT);
+			g.setColor(Color.WHITE);
+			g.fillRect(890, 480, 282, 32);
+			g.setColor(Color.RED);
+			g.drawString("PLANES ARE IN DANGER!!!", 900, 500);
+		}
+	}
+	
+	// Display the plane in screen.
+	private void render(Graphics g, Plane p) {
+		if (!p.isAtGate()) {
+			int x = (int) p.getX();
+			int y = (int) p.getY();
+			
+			// Trail behind the plane, from the center of its square.
+			Track track = p.getTrack();
+			if (track != null) {
+				int n = track.copy(trailX, trailY);
+				trailX[n] = x;
+				trailY[n] = y;
+				g.setColor(TRAIL_COLOR);
+				g.translate(5, 5);
+				g.drawPolyline(trailX, trailY, n + 1);
+				g.translate(-5, -5);
+			}
+			
+			// Set square color. Red for danger, blue normal.
+			if (p.isDanger()) {
+				g.setColor(Color.RED);
+				g.drawString("DANGER", x - 15, -15);
+			} else {
+				// Green value varies depending on the plane's altitude.
+				g.setColor(new Color(0, 255 - (((int) p.getAltitude() * 2 / 255) % 256), 255));
+			}
+			
+			g.fillRect(x, y, 10, 10);
+			g.setColor(Color.WHITE);
+			g.setFont(CALLSIGN_FONT);
+			g.drawString(p.getCallsign(), x + 15, y + 15);
+		}
+	}
+	
+	// Display model, altitude and speed of a plane next to it.
+	private void renderDetails(Graphics g, Plane p) {
+		int x = (int) p.getX() + 15;
+		int y = (int) p.getY() + 20;
+		g.setFont(CALLSIGN_FONT);
+		g.setColor(Color.BLACK);
+		g.fillRect(x, y, 130, 50);
+		g.setColor(Color.WHITE);
+		g.drawString(p.getModel(), x + 5, y + 15);
+		g.drawString((int) p.getAltitude() + " ft", x + 5, y + 30);
+		g.drawString((int) p.getSpeed() + " km/h", x + 5, y + 45);
+	}
+	
+	// Write the occupancy of all bands as a heatmap over the background.
+	public static void writeHeatmap(Analytics analytics, File file) throws IOException {
+		BufferedImage image = new BufferedImage(Analytics.COLS * Analytics.CELL, Analytics.ROWS * Analytics.CELL, BufferedImage.TYPE_INT_RGB);
+		Graphics g = image.getGraphics();
+		g.setColor(Color.BLACK);
+		g.fillRect(0, 0, image.getWidth(), image.getHeight());
+		if (getBackground() != null) {
+			g.drawImage(getBackground(), 0, 0, null);
+		}
+		
+		long max = 0;
+		for (int row = 0; row < Analytics.ROWS; row++) {
+			for (int col = 0; col < Analytics.COLS; col++) {
+				max = Math.max(max, analytics.getOccupancy(col, row));
+			}
+		}
+		
+		// Logarithmic scale, from translucent red (few ticks) to opaque yellow (busiest cell).
+		if (max > 0) {
+			for (int row = 0; row < Analytics.ROWS; row++) {
+				for (int col = 0; col < Analytics.COLS; col++) {
+					long ticks = analytics.getOccupancy(col, row);
+					if (ticks > 0) {
+						float heat = (float) (Math.log1p(ticks) / Math.log1p(max));
+						g.setColor(new Color(255, (int) (255 * heat), 0, 80 + (int) (175 * heat)));
+						g.fillRect(col * Analytics.CELL, row * Analytics.CELL, Analytics.CELL, Analytics.CELL);
+					}
+				}
+			}
+		}
+		
+		g.dispose();
+		ImageIO.write(image, "png", file);
+	}
+}